@@ -0,0 +1,101 @@
+package com.k3n.verifyemail.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the AIMD concurrency limiter that guards SMTP-bound verification work.
+ */
+@Component
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionControlConfig {
+
+    private int initialLimit = 20;
+    private int minLimit = 2;
+    private int maxLimit = 200;
+
+    // Requests allowed to wait for a permit before new arrivals are shed
+    private int queueCapacity = 100;
+    private long queueTimeoutMs = 2000;
+
+    // Probes slower than this shrink the limit multiplicatively
+    private long latencyThresholdMs = 5000;
+    private double backoffRatio = 0.9;
+
+    private int retryAfterSeconds = 5;
+
+    // Upper bound on addresses per /email/batch request
+    private int maxBatchSize = 500;
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getQueueTimeoutMs() {
+        return queueTimeoutMs;
+    }
+
+    public void setQueueTimeoutMs(long queueTimeoutMs) {
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
+
+    public long getLatencyThresholdMs() {
+        return latencyThresholdMs;
+    }
+
+    public void setLatencyThresholdMs(long latencyThresholdMs) {
+        this.latencyThresholdMs = latencyThresholdMs;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+}
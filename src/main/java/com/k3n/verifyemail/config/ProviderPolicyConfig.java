@@ -0,0 +1,111 @@
+package com.k3n.verifyemail.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-provider SMTP probing policies. Each policy is matched either by exact recipient
+ * domain or by MX host suffix.
+ */
+@Component
+@ConfigurationProperties(prefix = "provider")
+public class ProviderPolicyConfig {
+
+    // Categories MXLookupService can report; a SKIP_SMTP verdict must be one of them
+    public static final Set<String> KNOWN_VERDICTS = Set.of(
+            "Valid", "Invalid", "Unknown", "Catch-All", "Disposable", "Blocklisted",
+            "Forwarded", "CannotVerify", "MailboxBusy", "LocalError", "InsufficientStorage",
+            "UserNotFound", "RelayDenied", "AccessDenied", "Greylisted", "SyntaxError");
+
+    public enum Action {
+        // Do not connect at all; answer with the configured verdict
+        SKIP_SMTP,
+        // Domain is known not to be catch-all, so only the real RCPT probe is sent.
+        // Only safe for provider-owned domains, never for shared multi-tenant MX hosts.
+        SKIP_CATCH_ALL,
+        PROBE
+    }
+
+    public static class Policy {
+        private String domain;
+        private String mxSuffix;
+        private Action action = Action.PROBE;
+        private String verdict;
+
+        public Policy() {
+        }
+
+        public Policy(String mxSuffix, Action action, String verdict) {
+            this.mxSuffix = mxSuffix;
+            this.action = action;
+            this.verdict = verdict;
+        }
+
+        public String getDomain() {
+            return domain;
+        }
+
+        public void setDomain(String domain) {
+            this.domain = domain;
+        }
+
+        public String getMxSuffix() {
+            return mxSuffix;
+        }
+
+        public void setMxSuffix(String mxSuffix) {
+            this.mxSuffix = mxSuffix;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public void setAction(Action action) {
+            this.action = action;
+        }
+
+        public String getVerdict() {
+            return verdict;
+        }
+
+        public void setVerdict(String verdict) {
+            this.verdict = verdict;
+        }
+    }
+
+    private List<Policy> policies = new ArrayList<>();
+
+    public List<Policy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(List<Policy> policies) {
+        this.policies = policies;
+    }
+
+    @PostConstruct
+    public void validatePolicies() {
+        for (int i = 0; i < policies.size(); i++) {
+            Policy p = policies.get(i);
+            boolean hasDomain = p.getDomain() != null && !p.getDomain().isBlank();
+            boolean hasMxSuffix = p.getMxSuffix() != null && !p.getMxSuffix().isBlank();
+            if (hasDomain == hasMxSuffix) {
+                throw new IllegalStateException(
+                        "provider.policies[" + i + "] must set exactly one of domain or mx-suffix");
+            }
+            if (p.getVerdict() != null && !KNOWN_VERDICTS.contains(p.getVerdict())) {
+                throw new IllegalStateException(
+                        "provider.policies[" + i + "].verdict '" + p.getVerdict() + "' is not one of " + KNOWN_VERDICTS);
+            }
+
+            System.out.println("Provider policy loaded: "
+                    + (hasDomain ? "domain " + p.getDomain() : "mx " + p.getMxSuffix()) + " -> " + p.getAction());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.k3n.verifyemail.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Reports startup time and resident memory once the application is ready, so the
+ * worker profile can be compared against the full one.
+ */
+@Component
+public class StartupMetricsReporter {
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    private final Environment environment;
+
+    public StartupMetricsReporter(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        Gauge.builder("process.memory.rss", this, StartupMetricsReporter::residentMemoryBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        String profiles = environment.getActiveProfiles().length == 0
+                ? "default"
+                : String.join(",", Arrays.asList(environment.getActiveProfiles()));
+        long jvmUptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        System.out.println("Startup report [" + profiles + "]: ready in " + event.getTimeTaken().toMillis()
+                + " ms (JVM uptime " + jvmUptimeMs + " ms), RSS " + (residentMemoryBytes() / (1024 * 1024)) + " MB");
+    }
+
+    // VmRSS from procfs on Linux; elsewhere fall back to committed heap plus non-heap
+    public long residentMemoryBytes() {
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith("VmRSS:")) {
+                    String kb = line.substring("VmRSS:".length()).replace("kB", "").trim();
+                    return Long.parseLong(kb) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not available on this platform
+        }
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        return memory.getHeapMemoryUsage().getCommitted() + memory.getNonHeapMemoryUsage().getCommitted();
+    }
+}
@@ -0,0 +1,72 @@
+package com.k3n.verifyemail.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.k3n.verifyemail.dto.EmailValidationResult;
+import com.k3n.verifyemail.exception.OverloadedException;
+import com.k3n.verifyemail.model.EmailEntity;
+import com.k3n.verifyemail.model.EmailVerificationResultEntity;
+import com.k3n.verifyemail.repository.emailrepository;
+import com.k3n.verifyemail.repository.emailverificationresultrepository;
+import com.k3n.verifyemail.services.MXLookupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// Needs JPA, so it is left out of the lean worker profile
+@RestController
+@RequestMapping("/email")
+@Profile("!worker")
+public class EmailDbProcessingController {
+
+    @Autowired
+    private MXLookupService mxLookupService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private emailrepository emailRepository;
+
+    @Autowired
+    private emailverificationresultrepository resultRepository;
+
+    @PostMapping("/process-from-db")
+    public ResponseEntity<?> processEmailsFromDb() {
+        List<EmailEntity> emails = emailRepository.findAll();
+
+        int processed = 0;
+        for (EmailEntity emailEntity : emails) {
+            String email = emailEntity.getEmail();
+            EmailValidationResult result;
+            try {
+                result = mxLookupService.categorizeEmail(email);
+            } catch (OverloadedException e) {
+                // Rows already stored are kept; the job can be rerun once load drops
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                        .body(Map.of("message", "Stopped after " + processed + " of " + emails.size()
+                                + " emails: " + e.getMessage()));
+            }
+            processed++;
+
+            try {
+                String jsonResult = objectMapper.writeValueAsString(result);
+                EmailVerificationResultEntity resultEntity = new EmailVerificationResultEntity();
+                resultEntity.setEmail(email);
+                resultEntity.setVerificationResultJson(jsonResult);
+                resultRepository.save(resultEntity);
+            } catch (JsonProcessingException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+
+        return ResponseEntity.ok(Map.of("message", "Processed and stored email validation results."));
+    }
+}
@@ -1,14 +1,12 @@
 package com.k3n.verifyemail.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.k3n.verifyemail.config.AdmissionControlConfig;
 import com.k3n.verifyemail.dto.EmailValidationResult;
-import com.k3n.verifyemail.model.EmailEntity;
-import com.k3n.verifyemail.model.EmailVerificationResultEntity;
-import com.k3n.verifyemail.repository.emailrepository;
-import com.k3n.verifyemail.repository.emailverificationresultrepository;
+import com.k3n.verifyemail.exception.OverloadedException;
 import com.k3n.verifyemail.services.MXLookupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,13 +22,7 @@ public class EmailValidationController {
     private MXLookupService mxLookupService;
 
     @Autowired
-    private ObjectMapper objectMapper;
-
-    @Autowired
-    private emailrepository emailRepository;
-
-    @Autowired
-    private emailverificationresultrepository resultRepository;
+    private AdmissionControlConfig admissionControlConfig;
 
     @GetMapping
     public ResponseEntity<?> verifySingleEmail(@RequestParam String email) {
@@ -40,33 +32,54 @@ public class EmailValidationController {
 
     @PostMapping("/batch")
     public ResponseEntity<?> verifyBatchEmails(@RequestBody List<String> emails) {
-        Map<String, EmailValidationResult> resultMap = new HashMap<>();
-        for (String email : emails) {
-            EmailValidationResult result = mxLookupService.categorizeEmail(email);
-            resultMap.put(email, result);
+        if (emails.size() > admissionControlConfig.getMaxBatchSize()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("message", "Batch size exceeds " + admissionControlConfig.getMaxBatchSize()));
         }
-        return ResponseEntity.ok(resultMap);
-    }
 
-    @PostMapping("/process-from-db")
-    public ResponseEntity<?> processEmailsFromDb() {
-        List<EmailEntity> emails = emailRepository.findAll();
-
-        for (EmailEntity emailEntity : emails) {
-            String email = emailEntity.getEmail();
-            EmailValidationResult result = mxLookupService.categorizeEmail(email);
+        Map<String, EmailValidationResult> resultMap = new HashMap<>();
+        OverloadedException rejection = null;
+        int admitted = 0;
+        for (String email : emails) {
+            // Cheap checks always run; only addresses needing DNS or SMTP go through the limiter
+            EmailValidationResult precheck = mxLookupService.precheck(email);
+            if (precheck != null) {
+                resultMap.put(email, precheck);
+                continue;
+            }
 
+            // Once shed, the remaining network-bound addresses are throttled instead of queueing again
+            if (rejection != null) {
+                resultMap.put(email, throttled(email));
+                continue;
+            }
             try {
-                String jsonResult = objectMapper.writeValueAsString(result);
-                EmailVerificationResultEntity resultEntity = new EmailVerificationResultEntity();
-                resultEntity.setEmail(email);
-                resultEntity.setVerificationResultJson(jsonResult);
-                resultRepository.save(resultEntity);
-            } catch (JsonProcessingException e) {
-                System.out.println(e.getMessage());
+                resultMap.put(email, mxLookupService.categorizeAfterPrecheck(email));
+                admitted++;
+            } catch (OverloadedException e) {
+                rejection = e;
+                resultMap.put(email, throttled(email));
             }
         }
 
-        return ResponseEntity.ok(Map.of("message", "Processed and stored email validation results."));
+        // Nothing got past the limiter, so the batch as a whole was shed
+        if (rejection != null && admitted == 0) {
+            throw rejection;
+        }
+        return ResponseEntity.ok(resultMap);
+    }
+
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<?> handleOverload(OverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("message", e.getMessage()));
+    }
+
+    private EmailValidationResult throttled(String email) {
+        EmailValidationResult result = new EmailValidationResult();
+        result.setEmail(email);
+        result.setCategory("Throttled");
+        return result;
     }
-}
\ No newline at end of file
+}
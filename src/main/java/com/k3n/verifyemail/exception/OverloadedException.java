@@ -0,0 +1,18 @@
+package com.k3n.verifyemail.exception;
+
+/**
+ * Thrown when verification work is shed because the limiter is saturated.
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public OverloadedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
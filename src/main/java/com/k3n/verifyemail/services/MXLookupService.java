@@ -1,8 +1,8 @@
 package com.k3n.verifyemail.services;
 
-import com.k3n.verifyemail.config.BlacklistDomainConfig;
 import com.k3n.verifyemail.config.DisposableDomainConfig;
-import com.k3n.verifyemail.config.WhitelistedDomains;
+import com.k3n.verifyemail.config.ProviderPolicyConfig.Action;
+import com.k3n.verifyemail.config.ProviderPolicyConfig.Policy;
 import com.k3n.verifyemail.dto.EmailValidationResult;
 import com.k3n.verifyemail.util.SmtpRcptValidator;
 import com.k3n.verifyemail.util.SmtpRcptValidator.SmtpRecipientStatus;
@@ -26,22 +26,26 @@ public class MXLookupService {
             "^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,}$", Pattern.CASE_INSENSITIVE);
 
     private final Set<String> disposableDomains;
-    private final Set<String> blacklistDomains;
-    private final Set<String> whitelistedDomains;
+    private final ProviderPolicyService providerPolicyService;
+    private final VerificationLimiter verificationLimiter;
     private final SmtpRcptValidator smtpRcptValidator;
 
     @Autowired
     public MXLookupService(DisposableDomainConfig disposableConfig,
-                           BlacklistDomainConfig blacklistDomainConfig,
-                           WhitelistedDomains whitelistedDomains,
+                           ProviderPolicyService providerPolicyService,
+                           VerificationLimiter verificationLimiter,
                            SmtpRcptValidator smtpRcptValidator) {
         this.disposableDomains = Optional.ofNullable(disposableConfig.getDomainSet()).orElse(Collections.emptySet());
-        this.blacklistDomains = Optional.ofNullable(blacklistDomainConfig.getDomainSet()).orElse(Collections.emptySet());
-        this.whitelistedDomains = Optional.ofNullable(whitelistedDomains.getDomainSet()).orElse(Collections.emptySet());
+        this.providerPolicyService = providerPolicyService;
+        this.verificationLimiter = verificationLimiter;
         this.smtpRcptValidator = smtpRcptValidator;
     }
 
-    public EmailValidationResult categorizeEmail(String email) {
+    /**
+     * Runs only the checks that need no network I/O. Returns the final result when one of
+     * them is conclusive, or null when the address still needs DNS and SMTP probing.
+     */
+    public EmailValidationResult precheck(String email) {
         EmailValidationResult result = new EmailValidationResult();
         result.setEmail(email);
 
@@ -61,10 +65,44 @@ public class MXLookupService {
             return result;
         }
 
+        if (providerPolicyService.isBlacklisted(domain)) {
+            result.setDiagnosticTag("ProviderPolicy");
+            result.setCategory("Blocklisted");
+            return result;
+        }
+
+        return null;
+    }
+
+    public EmailValidationResult categorizeEmail(String email) {
+        EmailValidationResult precheck = precheck(email);
+        return precheck != null ? precheck : categorizeAfterPrecheck(email);
+    }
+
+    /**
+     * The DNS and SMTP part of {@link #categorizeEmail}, run under a limiter slot. Callers
+     * must already have run {@link #precheck} and got null back.
+     *
+     * @throws com.k3n.verifyemail.exception.OverloadedException when the limiter sheds the request
+     */
+    public EmailValidationResult categorizeAfterPrecheck(String email) {
+        try (VerificationLimiter.Permit permit = verificationLimiter.acquire()) {
+            return probe(email, permit);
+        }
+    }
+
+    // Marks the permit failed on outcomes that point at remote or DNS trouble; plain 4xx replies do not count
+    private EmailValidationResult probe(String email, VerificationLimiter.Permit permit) {
+        EmailValidationResult result = new EmailValidationResult();
+        result.setEmail(email);
+        String domain = extractDomain(email);
+
         List<String> mxRecords;
         try {
             mxRecords = getMXRecords(domain);
         } catch (NamingException e) {
+            permit.markFailed();
+            result.setDiagnosticTag("DnsLookupFailed");
             result.setCategory("Unknown");
             return result;
         }
@@ -74,14 +112,27 @@ public class MXLookupService {
             return result;
         }
 
-        try {
-            if (isCatchAll(mxRecords, domain)) {
-                result.setCategory("Catch-All");
+        String mxHost = extractMxHost(mxRecords.get(0));
+        Policy policy = providerPolicyService.resolve(domain, mxHost);
+        if (policy.getAction() == Action.SKIP_SMTP) {
+            result.setMailHost(mxHost);
+            result.setDiagnosticTag("ProviderPolicy");
+            result.setCategory(Optional.ofNullable(policy.getVerdict()).orElse("CannotVerify"));
+            return result;
+        }
+
+        if (policy.getAction() != Action.SKIP_CATCH_ALL) {
+            try {
+                if (isCatchAll(mxRecords, domain)) {
+                    result.setCategory("Catch-All");
+                    return result;
+                }
+            } catch (IOException e) {
+                permit.markFailed();
+                result.setDiagnosticTag("CatchAllProbeFailed");
+                result.setCategory("Unknown");
                 return result;
             }
-        } catch (IOException e) {
-            result.setCategory("Unknown");
-            return result;
         }
 
         ValidationResult smtp = smtpCheckStatus(mxRecords, email);
@@ -89,6 +140,9 @@ public class MXLookupService {
             result.setCategory("Unknown");
             return result;
         }
+        if (smtp.isProbeFailure()) {
+            permit.markFailed();
+        }
 
         result.setDiagnosticTag(smtp.getDiagnosticTag());
         result.setSmtpCode(smtp.getSmtpCode());
@@ -197,6 +251,9 @@ public class MXLookupService {
         String mxHost = extractMxHost(mxRecords.get(0));
         String fakeEmail = generateRandomLocalPart() + "@" + domain;
         ValidationResult result = smtpRcptValidator.validateRecipient(mxHost, fakeEmail);
+        if (result != null && result.isProbeFailure()) {
+            throw new IOException("Catch-all probe failed: " + result.getErrorMessage());
+        }
         return result != null && result.getStatus() == SmtpRecipientStatus.Valid;
     }
 
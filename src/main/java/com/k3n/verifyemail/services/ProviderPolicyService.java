@@ -0,0 +1,104 @@
+package com.k3n.verifyemail.services;
+
+import com.k3n.verifyemail.config.BlacklistDomainConfig;
+import com.k3n.verifyemail.config.ProviderPolicyConfig;
+import com.k3n.verifyemail.config.ProviderPolicyConfig.Action;
+import com.k3n.verifyemail.config.ProviderPolicyConfig.Policy;
+import com.k3n.verifyemail.config.WhitelistedDomains;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides how much SMTP probing a domain deserves.
+ *
+ * Blacklisted and whitelisted entries are recipient domains and are matched exactly
+ * against the address's domain, before any DNS lookup. The configured provider
+ * policies follow in order, first match wins: a policy with a domain matches that
+ * recipient domain exactly, one with an mx-suffix matches the primary MX host.
+ */
+@Service
+public class ProviderPolicyService {
+
+    private static final Policy DEFAULT_POLICY = new Policy(null, Action.PROBE, null);
+
+    // A trusted domain still gets a real RCPT probe; only the catch-all probe is skipped
+    private static final Policy WHITELIST_POLICY = new Policy(null, Action.SKIP_CATCH_ALL, null);
+
+    private final Set<String> blacklistedDomains;
+    private final Set<String> whitelistedDomains;
+    private final List<Policy> providerPolicies;
+    private final MeterRegistry meterRegistry;
+
+    public ProviderPolicyService(ProviderPolicyConfig providerPolicyConfig,
+                                 BlacklistDomainConfig blacklistDomainConfig,
+                                 WhitelistedDomains whitelistedDomains,
+                                 MeterRegistry meterRegistry) {
+        this.blacklistedDomains = toDomainSet(blacklistDomainConfig.getDomains());
+        this.whitelistedDomains = toDomainSet(whitelistedDomains.getDomains());
+        this.providerPolicies = providerPolicyConfig.getPolicies();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isBlacklisted(String domain) {
+        if (!blacklistedDomains.contains(normalize(domain))) return false;
+
+        count("blacklist", "none", Action.SKIP_SMTP);
+        return true;
+    }
+
+    public Policy resolve(String domain, String mxHost) {
+        String recipientDomain = normalize(domain);
+        if (whitelistedDomains.contains(recipientDomain)) {
+            count("whitelist", "none", WHITELIST_POLICY.getAction());
+            return WHITELIST_POLICY;
+        }
+
+        String host = normalize(mxHost);
+        for (Policy policy : providerPolicies) {
+            String policyDomain = normalize(policy.getDomain());
+            if (!policyDomain.isEmpty()) {
+                if (recipientDomain.equals(policyDomain)) {
+                    count("provider", policyDomain, policy.getAction());
+                    return policy;
+                }
+                continue;
+            }
+
+            String suffix = normalize(policy.getMxSuffix());
+            if (suffix.isEmpty()) continue;
+
+            if (host.equals(suffix) || host.endsWith("." + suffix)) {
+                count("provider", suffix, policy.getAction());
+                return policy;
+            }
+        }
+        return DEFAULT_POLICY;
+    }
+
+    // Tags stay bounded: list entries share one series per source, provider policies are configured by hand
+    private void count(String source, String provider, Action action) {
+        meterRegistry.counter("verification.provider.policy",
+                "source", source, "provider", provider, "action", action.name()).increment();
+    }
+
+    private Set<String> toDomainSet(List<String> domains) {
+        return Optional.ofNullable(domains).orElse(Collections.emptyList()).stream()
+                .map(this::normalize)
+                .filter(d -> !d.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private String normalize(String host) {
+        if (host == null) return "";
+        String trimmed = host.trim().toLowerCase(Locale.ROOT);
+        if (trimmed.startsWith(".")) trimmed = trimmed.substring(1);
+        return trimmed.endsWith(".") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,151 @@
+package com.k3n.verifyemail.services;
+
+import com.k3n.verifyemail.config.AdmissionControlConfig;
+import com.k3n.verifyemail.exception.OverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control in front of SMTP verification.
+ *
+ * The concurrency limit follows AIMD: it grows by one while probes stay under the
+ * latency threshold and the limit is actually in use, and shrinks by the backoff
+ * ratio whenever a probe is slow or fails. Callers beyond the limit wait in a
+ * bounded queue; once that is full, or the wait times out, work is rejected.
+ */
+@Component
+public class VerificationLimiter {
+
+    private final AdmissionControlConfig config;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private final Counter rejected;
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+
+    public VerificationLimiter(AdmissionControlConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.limit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), config.getInitialLimit()));
+
+        Gauge.builder("verification.limiter.limit", this, VerificationLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("verification.limiter.inflight", this, VerificationLimiter::getInFlight).register(meterRegistry);
+        Gauge.builder("verification.limiter.waiting", this, VerificationLimiter::getWaiting).register(meterRegistry);
+        this.rejected = Counter.builder("verification.limiter.rejected").register(meterRegistry);
+    }
+
+    public Permit acquire() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return new Permit();
+            }
+            if (waiting >= config.getQueueCapacity()) {
+                throw reject("Verification queue is full");
+            }
+
+            waiting++;
+            try {
+                long remainingNanos = TimeUnit.MILLISECONDS.toNanos(config.getQueueTimeoutMs());
+                while (inFlight >= (int) limit) {
+                    if (remainingNanos <= 0) {
+                        throw reject("Timed out waiting for a verification slot");
+                    }
+                    remainingNanos = permitReleased.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject("Interrupted while waiting for a verification slot");
+            } finally {
+                waiting--;
+            }
+
+            inFlight++;
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight * 2 >= limit;
+            inFlight--;
+
+            if (failed || TimeUnit.NANOSECONDS.toMillis(latencyNanos) > config.getLatencyThresholdMs()) {
+                limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+            } else if (saturated) {
+                limit = Math.min(config.getMaxLimit(), limit + 1);
+            }
+
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private OverloadedException reject(String message) {
+        rejected.increment();
+        return new OverloadedException(message, config.getRetryAfterSeconds());
+    }
+
+    public double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A held verification slot. Closing it feeds the measured latency back into the limit.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long startNanos = System.nanoTime();
+        private boolean failed;
+        private boolean released;
+
+        private Permit() {
+        }
+
+        public void markFailed() {
+            this.failed = true;
+        }
+
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+            release(System.nanoTime() - startNanos, failed);
+        }
+    }
+}
@@ -59,6 +59,11 @@ public class SmtpRcptValidator {
         public String getFullTranscript() { return fullTranscript; }
         public String getTimestamp() { return timestamp; }
         public String getDiagnosticTag() { return diagnosticTag; }
+
+        // The probe never got an RCPT answer: connect error, I/O failure or timeout
+        public boolean isProbeFailure() {
+            return "Timeout".equals(diagnosticTag) || "Exception".equals(diagnosticTag);
+        }
     }
 
     public ValidationResult validateRecipient(String mxHost, String email) {
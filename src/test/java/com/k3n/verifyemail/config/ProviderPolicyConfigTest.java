@@ -0,0 +1,45 @@
+package com.k3n.verifyemail.config;
+
+import com.k3n.verifyemail.config.ProviderPolicyConfig.Action;
+import com.k3n.verifyemail.config.ProviderPolicyConfig.Policy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderPolicyConfigTest {
+
+    private ProviderPolicyConfig config(Policy... policies) {
+        ProviderPolicyConfig config = new ProviderPolicyConfig();
+        config.setPolicies(List.of(policies));
+        return config;
+    }
+
+    @Test
+    void acceptsKnownVerdict() {
+        assertDoesNotThrow(() -> config(new Policy("yahoodns.net", Action.SKIP_SMTP, "CannotVerify")).validatePolicies());
+    }
+
+    @Test
+    void rejectsUnknownVerdict() {
+        ProviderPolicyConfig config = config(new Policy("yahoodns.net", Action.SKIP_SMTP, "CanotVerify"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, config::validatePolicies);
+        assertTrue(e.getMessage().contains("CanotVerify"));
+    }
+
+    @Test
+    void rejectsPolicyWithBothDomainAndMxSuffix() {
+        Policy policy = new Policy("google.com", Action.SKIP_CATCH_ALL, null);
+        policy.setDomain("gmail.com");
+
+        assertThrows(IllegalStateException.class, () -> config(policy).validatePolicies());
+    }
+
+    @Test
+    void rejectsPolicyWithNeitherDomainNorMxSuffix() {
+        assertThrows(IllegalStateException.class,
+                () -> config(new Policy(" ", Action.PROBE, null)).validatePolicies());
+    }
+}
@@ -0,0 +1,147 @@
+package com.k3n.verifyemail.services;
+
+import com.k3n.verifyemail.config.BlacklistDomainConfig;
+import com.k3n.verifyemail.config.ProviderPolicyConfig;
+import com.k3n.verifyemail.config.ProviderPolicyConfig.Action;
+import com.k3n.verifyemail.config.ProviderPolicyConfig.Policy;
+import com.k3n.verifyemail.config.WhitelistedDomains;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderPolicyServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<Policy> policies;
+    private List<String> blacklisted;
+    private List<String> whitelisted;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        policies = new ArrayList<>();
+        blacklisted = new ArrayList<>();
+        whitelisted = new ArrayList<>();
+    }
+
+    private ProviderPolicyService service() {
+        ProviderPolicyConfig providerPolicyConfig = new ProviderPolicyConfig();
+        providerPolicyConfig.setPolicies(policies);
+        BlacklistDomainConfig blacklistDomainConfig = new BlacklistDomainConfig();
+        blacklistDomainConfig.setDomains(blacklisted);
+        WhitelistedDomains whitelistedDomains = new WhitelistedDomains();
+        whitelistedDomains.setDomains(whitelisted);
+        return new ProviderPolicyService(providerPolicyConfig, blacklistDomainConfig, whitelistedDomains, meterRegistry);
+    }
+
+    private static Policy domainPolicy(String domain, Action action) {
+        Policy policy = new Policy();
+        policy.setDomain(domain);
+        policy.setAction(action);
+        return policy;
+    }
+
+    private double count(String source, String provider, Action action) {
+        Counter counter = meterRegistry.find("verification.provider.policy")
+                .tags("source", source, "provider", provider, "action", action.name())
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void blacklistMatchesExactRecipientDomainOnly() {
+        blacklisted.add(" Blocked.COM. ");
+        ProviderPolicyService service = service();
+
+        assertTrue(service.isBlacklisted("blocked.com"));
+        assertFalse(service.isBlacklisted("mail.blocked.com"));
+        assertFalse(service.isBlacklisted("notblocked.com"));
+        assertEquals(1.0, count("blacklist", "none", Action.SKIP_SMTP));
+    }
+
+    @Test
+    void blacklistIsNotMatchedAgainstMxHost() {
+        blacklisted.add("google.com");
+        ProviderPolicyService service = service();
+
+        assertSame(Action.PROBE, service.resolve("customer.example", "aspmx.l.google.com").getAction());
+    }
+
+    @Test
+    void mxSuffixMatchesExactHostAndDotBoundaryOnly() {
+        policies.add(new Policy("yahoodns.net", Action.SKIP_SMTP, "CannotVerify"));
+        ProviderPolicyService service = service();
+
+        assertSame(policies.get(0), service.resolve("a.example", "yahoodns.net"));
+        assertSame(policies.get(0), service.resolve("b.example", "mta5.am0.yahoodns.net"));
+        assertSame(Action.PROBE, service.resolve("c.example", "notyahoodns.net").getAction());
+        assertEquals(2.0, count("provider", "yahoodns.net", Action.SKIP_SMTP));
+    }
+
+    @Test
+    void leadingAndTrailingDotsAreNormalized() {
+        policies.add(new Policy(".YahooDNS.net.", Action.SKIP_SMTP, "CannotVerify"));
+        ProviderPolicyService service = service();
+
+        assertSame(policies.get(0), service.resolve("a.example", "mta5.am0.yahoodns.net."));
+        assertEquals(1.0, count("provider", "yahoodns.net", Action.SKIP_SMTP));
+    }
+
+    @Test
+    void firstMatchingPolicyWins() {
+        policies.add(new Policy("am0.yahoodns.net", Action.PROBE, null));
+        policies.add(new Policy("yahoodns.net", Action.SKIP_SMTP, "CannotVerify"));
+        ProviderPolicyService service = service();
+
+        assertSame(policies.get(0), service.resolve("a.example", "mta5.am0.yahoodns.net"));
+        assertSame(policies.get(1), service.resolve("a.example", "mta5.am1.yahoodns.net"));
+    }
+
+    @Test
+    void domainPolicyMatchesRecipientDomainNotMxHost() {
+        policies.add(domainPolicy("gmail.com", Action.SKIP_CATCH_ALL));
+        ProviderPolicyService service = service();
+
+        assertSame(policies.get(0), service.resolve("gmail.com", "gmail-smtp-in.l.google.com"));
+        assertSame(Action.PROBE, service.resolve("workspace.example", "gmail.com").getAction());
+        assertSame(Action.PROBE, service.resolve("sub.gmail.com", "gmail-smtp-in.l.google.com").getAction());
+        assertEquals(1.0, count("provider", "gmail.com", Action.SKIP_CATCH_ALL));
+    }
+
+    @Test
+    void whitelistTakesPrecedenceOverProviderPolicies() {
+        whitelisted.add("trusted.example");
+        policies.add(new Policy("yahoodns.net", Action.SKIP_SMTP, "CannotVerify"));
+        ProviderPolicyService service = service();
+
+        Policy policy = service.resolve("trusted.example", "mta5.am0.yahoodns.net");
+
+        assertSame(Action.SKIP_CATCH_ALL, policy.getAction());
+        assertNull(policy.getVerdict());
+        assertEquals(1.0, count("whitelist", "none", Action.SKIP_CATCH_ALL));
+        assertEquals(0.0, count("provider", "yahoodns.net", Action.SKIP_SMTP));
+    }
+
+    @Test
+    void blankMxSuffixIsSkipped() {
+        policies.add(new Policy("  ", Action.SKIP_SMTP, "CannotVerify"));
+        policies.add(new Policy(null, Action.SKIP_SMTP, "CannotVerify"));
+        ProviderPolicyService service = service();
+
+        assertSame(Action.PROBE, service.resolve("a.example", "mx.a.example").getAction());
+    }
+
+    @Test
+    void unmatchedDomainProbesWithoutCounting() {
+        ProviderPolicyService service = service();
+
+        assertSame(Action.PROBE, service.resolve("a.example", "mx.a.example").getAction());
+        assertNull(meterRegistry.find("verification.provider.policy").counter());
+    }
+}
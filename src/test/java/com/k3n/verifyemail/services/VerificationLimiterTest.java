@@ -0,0 +1,126 @@
+package com.k3n.verifyemail.services;
+
+import com.k3n.verifyemail.config.AdmissionControlConfig;
+import com.k3n.verifyemail.exception.OverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerificationLimiterTest {
+
+    private AdmissionControlConfig config(int initialLimit, int queueCapacity, long queueTimeoutMs) {
+        AdmissionControlConfig config = new AdmissionControlConfig();
+        config.setInitialLimit(initialLimit);
+        config.setMinLimit(1);
+        config.setMaxLimit(100);
+        config.setQueueCapacity(queueCapacity);
+        config.setQueueTimeoutMs(queueTimeoutMs);
+        config.setLatencyThresholdMs(60_000);
+        config.setBackoffRatio(0.5);
+        config.setRetryAfterSeconds(7);
+        return config;
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() {
+        VerificationLimiter limiter = new VerificationLimiter(config(1, 0, 5_000), new SimpleMeterRegistry());
+
+        try (VerificationLimiter.Permit held = limiter.acquire()) {
+            long start = System.nanoTime();
+            OverloadedException e = assertThrows(OverloadedException.class, limiter::acquire);
+
+            assertEquals(7, e.getRetryAfterSeconds());
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+        }
+    }
+
+    @Test
+    void rejectsWhenQueuedWaitTimesOut() {
+        VerificationLimiter limiter = new VerificationLimiter(config(1, 1, 100), new SimpleMeterRegistry());
+
+        try (VerificationLimiter.Permit held = limiter.acquire()) {
+            long start = System.nanoTime();
+            assertThrows(OverloadedException.class, limiter::acquire);
+
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 90);
+            assertEquals(0, limiter.getWaiting());
+        }
+    }
+
+    @Test
+    void queuedCallerIsAdmittedWhenPermitIsReleased() throws Exception {
+        VerificationLimiter limiter = new VerificationLimiter(config(1, 1, 5_000), new SimpleMeterRegistry());
+        VerificationLimiter.Permit held = limiter.acquire();
+
+        CompletableFuture<VerificationLimiter.Permit> waiter = CompletableFuture.supplyAsync(limiter::acquire);
+        while (limiter.getWaiting() == 0) {
+            Thread.sleep(5);
+        }
+        held.close();
+
+        try (VerificationLimiter.Permit admitted = waiter.get(5, TimeUnit.SECONDS)) {
+            assertEquals(1, limiter.getInFlight());
+        }
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void failedProbeBacksOffLimit() {
+        VerificationLimiter limiter = new VerificationLimiter(config(10, 0, 0), new SimpleMeterRegistry());
+
+        try (VerificationLimiter.Permit permit = limiter.acquire()) {
+            permit.markFailed();
+        }
+
+        assertEquals(5.0, limiter.getLimit());
+    }
+
+    @Test
+    void slowProbeBacksOffLimitButNotBelowMinimum() throws Exception {
+        AdmissionControlConfig config = config(2, 0, 0);
+        config.setLatencyThresholdMs(0);
+        VerificationLimiter limiter = new VerificationLimiter(config, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 3; i++) {
+            try (VerificationLimiter.Permit permit = limiter.acquire()) {
+                Thread.sleep(5);
+            }
+        }
+
+        assertEquals(1.0, limiter.getLimit());
+    }
+
+    @Test
+    void fastProbeGrowsLimitOnlyWhenLimitIsInUse() {
+        VerificationLimiter limiter = new VerificationLimiter(config(2, 0, 0), new SimpleMeterRegistry());
+
+        // One of two slots in use counts as saturated
+        try (VerificationLimiter.Permit permit = limiter.acquire()) {
+            assertEquals(1, limiter.getInFlight());
+        }
+        assertEquals(3.0, limiter.getLimit());
+
+        // One of three slots in use does not
+        try (VerificationLimiter.Permit permit = limiter.acquire()) {
+            assertEquals(1, limiter.getInFlight());
+        }
+        assertEquals(3.0, limiter.getLimit());
+    }
+
+    @Test
+    void closingPermitTwiceReleasesOnce() {
+        VerificationLimiter limiter = new VerificationLimiter(config(2, 0, 0), new SimpleMeterRegistry());
+        VerificationLimiter.Permit first = limiter.acquire();
+        VerificationLimiter.Permit second = limiter.acquire();
+
+        first.close();
+        first.close();
+
+        assertEquals(1, limiter.getInFlight());
+        second.close();
+    }
+}